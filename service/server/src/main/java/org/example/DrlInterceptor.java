@@ -1,15 +1,26 @@
 package org.example;
 
+import com.netflix.concurrency.limits.Limit;
 import com.netflix.concurrency.limits.grpc.server.ConcurrencyLimitServerInterceptor;
 import com.netflix.concurrency.limits.limit.VegasLimit;
 import com.netflix.concurrency.limits.limit.WindowedLimit;
 import com.netflix.concurrency.limits.limiter.SimpleLimiter;
 import io.grpc.ServerInterceptor;
 import org.example.metrics.DrlMetricRegistry;
+import org.example.metrics.Metrics;
+
+import java.util.concurrent.TimeUnit;
 
 public class DrlInterceptor {
 
+    // ---- warmup knobs (WARMUP_MS=0 disables slow-start) ----
+    private static final int WARMUP_MS             = envInt("WARMUP_MS", 0);               // ramp duration, e.g. 30000
+    private static final int WARMUP_FLOOR          = envInt("WARMUP_FLOOR", 4);            // initial admitted concurrency
+    private static final int WARMUP_RTT_TOL_PCT    = envInt("WARMUP_RTT_TOL_PCT", 10);     // RTT stable within +/- %
+    private static final int WARMUP_STABLE_WINDOWS = envInt("WARMUP_STABLE_WINDOWS", 3);  // consecutive stable windows
+
     VegasLimit vegasLimit;
+    WarmupLimit warmupLimit;
 
     ServerInterceptor getInterceptor() {
         DrlMetricRegistry metricRegistry = new DrlMetricRegistry();
@@ -18,13 +29,56 @@ public class DrlInterceptor {
                 .metricRegistry(metricRegistry)
                 .build();
 
+        Limit limit = WindowedLimit.newBuilder()
+                .build(vegasLimit);
+
+        if (WARMUP_MS > 0) {
+            warmupLimit = new WarmupLimit(limit, WARMUP_FLOOR, WARMUP_MS, TimeUnit.MILLISECONDS,
+                    WARMUP_RTT_TOL_PCT / 100.0, WARMUP_STABLE_WINDOWS);
+            limit = warmupLimit;
+        }
+
+        // export from the limit itself so the gauge moves even while there is no traffic
+        Metrics.DRL_EFFECTIVE_LIMIT.set(limit.getLimit());
+        limit.notifyOnChange(value -> Metrics.DRL_EFFECTIVE_LIMIT.set(value));
+
         ServerInterceptor serverInterceptor = ConcurrencyLimitServerInterceptor.newBuilder(
                 SimpleLimiter.newBuilder()
                         .metricRegistry(metricRegistry)
-                        .limit(WindowedLimit.newBuilder()
-                                .build(vegasLimit))
+                        .limit(limit)
                         .metricRegistry(metricRegistry)
                         .build()).build();
         return serverInterceptor;
     }
-}
\ No newline at end of file
+
+    /** True once the limiter is out of slow-start (always true when warmup is disabled). */
+    boolean isWarm() {
+        return warmupLimit == null || warmupLimit.isWarm();
+    }
+
+    /** Keeps synthetic warmup calls out of the warmup RTT stability detector. */
+    void pauseWarmupRttTracking() {
+        if (warmupLimit != null) {
+            warmupLimit.setRttTracking(false);
+        }
+    }
+
+    /** Restarts the ramp once synthetic warmup calls are done, so they do not use up WARMUP_MS. */
+    void restartWarmup() {
+        if (warmupLimit != null) {
+            warmupLimit.setRttTracking(true);
+            warmupLimit.restart();
+        }
+    }
+
+    /** Currently published limit, including the warmup ceiling. */
+    int effectiveLimit() {
+        return (warmupLimit != null) ? warmupLimit.getLimit() : vegasLimit.getLimit();
+    }
+
+    private static int envInt(String key, int def) {
+        String v = System.getenv(key);
+        if (v == null || v.isBlank()) return def;
+        return Integer.parseInt(v.trim());
+    }
+}
@@ -0,0 +1,247 @@
+package org.example;
+
+import org.example.metrics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Deficit round-robin over per-peer sub-queues in front of the worker pool.
+ *
+ * Instead of one FIFO queue serving whoever arrives fastest, each peer gets its own queue and
+ * free workers are handed out round-robin, {@code quantum} tasks per peer per turn. Tasks are
+ * only passed to the executor when a worker is free, so the executor's own queue stays empty.
+ *
+ * Each peer's inflight (queued + running) is capped at its share of the adaptive limit:
+ * {@code limit / activePeers}, and never more than {@code limit - reserved}. The scheduler sits
+ * behind the global limiter, which admits in arrival order; the reserve keeps a single busy peer
+ * from holding every limiter slot, so other peers still get through the limiter, become active
+ * and shrink the busy peer's share.
+ *
+ * A peer's queue only exists while it has work queued or running, and at most {@code maxPeers}
+ * peers are active individually; beyond that new peers share the "other" queue until a slot
+ * frees up. Metric labels are bounded separately to {@code maxPeers - 1} peer values plus
+ * "other"; a label unused for {@link #LABEL_IDLE_NANOS} is recycled (and its series removed) when
+ * a new peer needs one.
+ */
+public final class FairScheduler {
+
+    static final String OTHER_PEER = "other";
+    static final long LABEL_IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Executor executor;
+    private final int workers;
+    private final int queueCapacity;
+    private final int quantum;
+    private final int maxPeers;
+    private final int reservedPct;
+    private final IntSupplier limit;
+    private final LongSupplier clock;
+
+    // all guarded by "this"
+    private final Map<String, PeerQueue> peers = new HashMap<>();
+    // label -> last use, least recently used first
+    private final LinkedHashMap<String, Long> labels = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<PeerQueue> ring = new ArrayDeque<>();
+    private int running;
+    private int queued;
+
+    public FairScheduler(Executor executor, int workers, int queueCapacity, int quantum,
+                         int maxPeers, int reservedPct, IntSupplier limit) {
+        this(executor, workers, queueCapacity, quantum, maxPeers, reservedPct, limit, System::nanoTime);
+    }
+
+    FairScheduler(Executor executor, int workers, int queueCapacity, int quantum,
+                  int maxPeers, int reservedPct, IntSupplier limit, LongSupplier clock) {
+        this.executor = executor;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.quantum = Math.max(1, quantum);
+        this.maxPeers = Math.max(1, maxPeers);
+        this.reservedPct = Math.max(0, Math.min(100, reservedPct));
+        this.limit = limit;
+        this.clock = clock;
+    }
+
+    /**
+     * Queues {@code task} for {@code peer}. Returns false (task dropped) if the peer is over its
+     * share of the limit or all sub-queues together are at capacity. If the executor later
+     * refuses the task, {@code onReject} runs instead of {@code task}.
+     */
+    public boolean submit(String peer, Runnable task, Runnable onReject) {
+        List<Runnable> rejected;
+        synchronized (this) {
+            String key = queueKey(peer);
+            PeerQueue pq = peers.get(key);
+            int share = share(peers.size() + (pq == null ? 1 : 0));
+            int inflight = (pq == null) ? 0 : pq.inflight;
+
+            if (inflight >= share || queued >= queueCapacity) {
+                Metrics.FAIR_SHED_TOTAL.labelValues(label(key)).inc();
+                return false;
+            }
+
+            if (pq == null) {
+                pq = new PeerQueue(key);
+                peers.put(key, pq);
+            }
+            Metrics.FAIR_ADMITTED_TOTAL.labelValues(label(key)).inc();
+            pq.inflight++;
+            if (pq.tasks.isEmpty()) {
+                ring.addLast(pq);
+            }
+            pq.tasks.addLast(new Task(task, onReject));
+            queued++;
+
+            rejected = dispatch();
+        }
+        rejected.forEach(Runnable::run);
+        return true;
+    }
+
+    public synchronized int queued() {
+        return queued;
+    }
+
+    /**
+     * Forgets all peer labels and removes their series, e.g. after the server's own synthetic
+     * warmup calls so they do not hold a label slot.
+     */
+    public synchronized void resetLabels() {
+        labels.keySet().forEach(FairScheduler::removeSeries);
+        labels.clear();
+    }
+
+    /** Keys of the peers that currently have their own queue (including "other"). */
+    synchronized Set<String> activePeers() {
+        return new HashSet<>(peers.keySet());
+    }
+
+    /** Peer label values currently in use (excluding "other"). */
+    synchronized Set<String> labels() {
+        return new HashSet<>(labels.keySet());
+    }
+
+    private int share(int activePeers) {
+        int current = limit.getAsInt();
+        int reserved = (reservedPct > 0) ? Math.max(1, current * reservedPct / 100) : 0;
+        return Math.max(1, Math.min(current / activePeers, current - reserved));
+    }
+
+    private String queueKey(String peer) {
+        String key = (peer != null) ? peer : OTHER_PEER;
+        if (peers.containsKey(key) || OTHER_PEER.equals(key)) {
+            return key;
+        }
+        int individual = peers.size() - (peers.containsKey(OTHER_PEER) ? 1 : 0);
+        return (individual < maxPeers - 1) ? key : OTHER_PEER;
+    }
+
+    private String label(String key) {
+        if (OTHER_PEER.equals(key)) {
+            return OTHER_PEER;
+        }
+        long now = clock.getAsLong();
+        if (labels.containsKey(key) || labels.size() < maxPeers - 1 || recycleIdleLabel(now)) {
+            labels.put(key, now);
+            return key;
+        }
+        return OTHER_PEER;
+    }
+
+    private boolean recycleIdleLabel(long now) {
+        Iterator<Map.Entry<String, Long>> it = labels.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (now - eldest.getValue() < LABEL_IDLE_NANOS) {
+                return false;
+            }
+            if (!peers.containsKey(eldest.getKey())) {
+                it.remove();
+                removeSeries(eldest.getKey());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void removeSeries(String label) {
+        Metrics.FAIR_ADMITTED_TOTAL.remove(label);
+        Metrics.FAIR_SHED_TOTAL.remove(label);
+    }
+
+    /** Hands queued tasks to free workers; returns rejection callbacks to run outside the lock. */
+    private List<Runnable> dispatch() {
+        List<Runnable> rejected = new ArrayList<>();
+        while (running < workers && !ring.isEmpty()) {
+            PeerQueue pq = ring.peekFirst();
+            if (pq.deficit <= 0) {
+                pq.deficit += quantum;
+            }
+
+            Task task = pq.tasks.pollFirst();
+            pq.deficit--;
+            queued--;
+            try {
+                executor.execute(() -> run(pq, task.work));
+                running++;
+            } catch (RejectedExecutionException e) {
+                release(pq);
+                rejected.add(task.onReject);
+            }
+
+            if (pq.tasks.isEmpty()) {
+                ring.pollFirst();
+                pq.deficit = 0;
+            } else if (pq.deficit <= 0) {
+                ring.addLast(ring.pollFirst());
+            }
+        }
+        return rejected;
+    }
+
+    private void run(PeerQueue pq, Runnable work) {
+        List<Runnable> rejected;
+        try {
+            work.run();
+        } finally {
+            synchronized (this) {
+                running--;
+                release(pq);
+                rejected = dispatch();
+            }
+            rejected.forEach(Runnable::run);
+        }
+    }
+
+    private void release(PeerQueue pq) {
+        if (--pq.inflight == 0) {
+            peers.remove(pq.key);
+        }
+    }
+
+    private record Task(Runnable work, Runnable onReject) {}
+
+    private static final class PeerQueue {
+        final String key;
+        final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        int deficit;
+        int inflight;
+
+        PeerQueue(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package org.example;
 
+import io.grpc.ManagedChannel;
 import io.grpc.Server;
+import io.grpc.ServerInterceptor;
 import io.grpc.ServerInterceptors;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
 import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
 import io.prometheus.metrics.exporter.httpserver.HTTPServer;
 import org.example.metrics.Metrics;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -15,10 +21,15 @@ public final class HelloServer {
 
     public static DrlInterceptor drlInterceptor = new DrlInterceptor();
 
+    // synthetic SayHello calls issued before reporting ready (0 disables)
+    private static final int WARMUP_CALLS = envInt("WARMUP_CALLS", 0);
+
     public static void main(String[] args) throws Exception {
         int grpcPort = 50051;
         int metricsPort = 9090;
 
+        Metrics.DRL_WARMUP_READY.set(0);
+
         // Start Prometheus scrape endpoint: http://localhost:9090/metrics
         HTTPServer prom = Metrics.startPrometheusServer(metricsPort);
         System.out.println("Prometheus metrics: http://localhost:" + metricsPort + "/metrics");
@@ -35,9 +46,16 @@ public final class HelloServer {
 
         HelloServiceImpl service = new HelloServiceImpl();
 
+        // the last interceptor runs first: metrics -> limiter -> (peer key) -> service
+        List<ServerInterceptor> interceptors = new ArrayList<>();
+        if (HelloServiceImpl.FAIR) {
+            interceptors.add(HelloServiceImpl.peerKeyInterceptor());
+        }
+        interceptors.add(drlInterceptor.getInterceptor());
+        interceptors.add(new GrpcMetricsInterceptor());
 
         Server server = NettyServerBuilder.forPort(grpcPort)
-                .addService(ServerInterceptors.intercept(service, drlInterceptor.getInterceptor(), new GrpcMetricsInterceptor()))
+                .addService(ServerInterceptors.intercept(service, interceptors))
                 //.executor(executor)
                 .build()
                 .start();
@@ -50,6 +68,48 @@ public final class HelloServer {
             prom.stop();
         }));
 
+        warmUp(grpcPort);
+        Metrics.DRL_WARMUP_READY.set(1);
+        System.out.println("gRPC server ready (limit=" + drlInterceptor.effectiveLimit() + ")");
+
         server.awaitTermination();
     }
+
+    /**
+     * Pre-exercises the handler and serialization paths, then waits for the limiter
+     * to leave slow-start. Only after this does the server report ready.
+     */
+    private static void warmUp(int grpcPort) throws InterruptedException {
+        if (WARMUP_CALLS > 0) {
+            // sequential calls at inflight 1 say nothing about RTT under real load
+            drlInterceptor.pauseWarmupRttTracking();
+            ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", grpcPort)
+                    .usePlaintext()
+                    .build();
+            HelloServiceGrpc.HelloServiceBlockingStub stub = HelloServiceGrpc.newBlockingStub(channel);
+            int failed = 0;
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                try {
+                    stub.withDeadlineAfter(1, TimeUnit.SECONDS)
+                            .sayHello(HelloRequest.newBuilder().setName("warmup").build());
+                } catch (StatusRuntimeException e) {
+                    failed++;
+                }
+            }
+            channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+            System.out.println("Warmup calls: " + WARMUP_CALLS + " (failed " + failed + ")");
+            drlInterceptor.restartWarmup();
+            HelloServiceImpl.resetFairLabels();
+        }
+
+        while (!drlInterceptor.isWarm()) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static int envInt(String key, int def) {
+        String v = System.getenv(key);
+        if (v == null || v.isBlank()) return def;
+        return Integer.parseInt(v.trim());
+    }
 }
\ No newline at end of file
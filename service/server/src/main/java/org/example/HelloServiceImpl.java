@@ -17,6 +17,13 @@ public final class HelloServiceImpl extends HelloServiceGrpc.HelloServiceImplBas
     private static final int WORKERS   = envInt("WORKERS", 8);              // server worker threads
     private static final int QUEUE     = envInt("QUEUE", 50);               // bounded queue size
 
+    // ---- fair scheduling knobs (FAIR=1 enables) ----
+    static final boolean FAIR                         = envInt("FAIR", 0) == 1;                 // per-peer fair queuing
+    private static final int FAIR_QUANTUM             = envInt("FAIR_QUANTUM", 1);              // tasks per peer per DRR turn
+    private static final int FAIR_MAX_PEERS           = envInt("FAIR_MAX_PEERS", 16);           // active peer queues + labels (rest -> "other")
+    private static final int FAIR_RESERVED_PCT        = envInt("FAIR_RESERVED_PCT", 20);        // % of limit no single peer may take
+    private static final boolean FAIR_TRUST_CLIENT_ID = envInt("FAIR_TRUST_CLIENT_ID", 0) == 1; // key by x-client-id header
+
     // ---- bounded executor: deterministic overload + queueing ----
     // AbortPolicy throws RejectedExecutionException when saturated (queue full).
     private static final ThreadPoolExecutor EXEC = new ThreadPoolExecutor(
@@ -34,10 +41,30 @@ public final class HelloServiceImpl extends HelloServiceGrpc.HelloServiceImplBas
             new ThreadPoolExecutor.AbortPolicy()
     );
 
+    // ---- optional fair scheduling: per-peer DRR sub-queues in front of EXEC ----
+    private static final FairScheduler FAIR_SCHEDULER = FAIR
+            ? new FairScheduler(EXEC, WORKERS, QUEUE, FAIR_QUANTUM, FAIR_MAX_PEERS, FAIR_RESERVED_PCT,
+                    () -> HelloServer.drlInterceptor.effectiveLimit())
+            : null;
+
     static {
         Metrics.HELLO_WORK_MS.set(WORK_MS);
         Metrics.HELLO_WORKERS.set(WORKERS);
         Metrics.HELLO_QUEUE_CAPACITY.set(QUEUE);
+        // start workers up front so the first burst does not pay for thread creation
+        EXEC.prestartAllCoreThreads();
+    }
+
+    /** Resolves the fair-scheduling peer key; only installed when FAIR=1. */
+    static PeerKeyInterceptor peerKeyInterceptor() {
+        return new PeerKeyInterceptor(FAIR_TRUST_CLIENT_ID);
+    }
+
+    /** Drops peer labels picked up so far, e.g. from the server's own warmup calls. */
+    static void resetFairLabels() {
+        if (FAIR_SCHEDULER != null) {
+            FAIR_SCHEDULER.resetLabels();
+        }
     }
 
     @Override
@@ -49,12 +76,32 @@ public final class HelloServiceImpl extends HelloServiceGrpc.HelloServiceImplBas
             return;
         }
 
-        try {
-            Metrics.HELLO_EXEC_QUEUE.set(EXEC.getQueue().size());
-            Metrics.HELLO_EXEC_ACTIVE.set(EXEC.getActiveCount());
-            if (HelloServer.drlInterceptor.vegasLimit != null) {
-                Metrics.DRL_VEGAS_LIMIT.labelValues("vegas_limit").set(HelloServer.drlInterceptor.vegasLimit.getLimit());
+        Metrics.HELLO_EXEC_QUEUE.set(FAIR_SCHEDULER != null ? FAIR_SCHEDULER.queued() : EXEC.getQueue().size());
+        Metrics.HELLO_EXEC_ACTIVE.set(EXEC.getActiveCount());
+        if (HelloServer.drlInterceptor.vegasLimit != null) {
+            Metrics.DRL_VEGAS_LIMIT.labelValues("vegas_limit").set(HelloServer.drlInterceptor.vegasLimit.getLimit());
+        }
+
+        if (FAIR_SCHEDULER != null) {
+            // fair sheds are counted in fair_shed_total only
+            boolean admitted = FAIR_SCHEDULER.submit(
+                    PeerKeyInterceptor.PEER_KEY.get(),
+                    () -> handle(request, responseObserver),
+                    () -> {
+                        Metrics.HELLO_EXEC_REJECTED_TOTAL.inc();
+                        responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                                .withDescription("server saturated (queue full)")
+                                .asRuntimeException());
+                    });
+            if (!admitted) {
+                responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                        .withDescription("server saturated (peer over fair share or queue full)")
+                        .asRuntimeException());
             }
+            return;
+        }
+
+        try {
             EXEC.execute(() -> handle(request, responseObserver));
 
         } catch (RejectedExecutionException rejected) {
@@ -0,0 +1,52 @@
+package org.example;
+
+import io.grpc.*;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Resolves the fairness key of a call and exposes it to the handler via {@link #PEER_KEY}.
+ *
+ * The key is the remote host (port dropped so that all channels opened by one client share a
+ * key). The {@code x-client-id} header is only used when {@code trustClientId} is set, since
+ * otherwise a client could claim many peer slots just by varying it.
+ */
+public final class PeerKeyInterceptor implements ServerInterceptor {
+
+    static final Context.Key<String> PEER_KEY = Context.key("peer-key");
+
+    static final Metadata.Key<String> CLIENT_ID_HEADER =
+            Metadata.Key.of("x-client-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final boolean trustClientId;
+
+    public PeerKeyInterceptor(boolean trustClientId) {
+        this.trustClientId = trustClientId;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call,
+            Metadata headers,
+            ServerCallHandler<ReqT, RespT> next
+    ) {
+        Context ctx = Context.current().withValue(PEER_KEY, peerKey(call, headers));
+        return Contexts.interceptCall(ctx, call, headers, next);
+    }
+
+    private String peerKey(ServerCall<?, ?> call, Metadata headers) {
+        if (trustClientId) {
+            String clientId = headers.get(CLIENT_ID_HEADER);
+            if (clientId != null && !clientId.isBlank()) {
+                return clientId.trim();
+            }
+        }
+
+        SocketAddress remote = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        if (remote instanceof InetSocketAddress inet) {
+            return (inet.getAddress() != null) ? inet.getAddress().getHostAddress() : inet.getHostString();
+        }
+        return (remote != null) ? remote.toString() : "unknown";
+    }
+}
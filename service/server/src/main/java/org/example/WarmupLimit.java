@@ -0,0 +1,177 @@
+package org.example;
+
+import com.netflix.concurrency.limits.Limit;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Slow-start wrapper around an adaptive {@link Limit}.
+ *
+ * Right after startup the JIT is cold and worker threads / connections are not warm, so the
+ * delegate's initial limit admits more than the node can serve at a good latency. During warmup
+ * the published limit is capped by a ceiling that ramps linearly from {@code floor} up to the
+ * delegate's limit over {@code duration}.
+ *
+ * A stable RTT speeds the ramp up rather than ending it: every window whose RTT average stays
+ * within {@code rttTolerance} of the previous one skips the ramp ahead by a tenth of
+ * {@code duration}, at most up to the delegate's limit. Warmup ends once {@code duration} has
+ * elapsed, or earlier if the ceiling has reached the delegate's limit and the RTT then stays
+ * stable for {@code stableWindows} more windows, so there is never a step from a low ceiling
+ * straight to the full limit.
+ */
+public final class WarmupLimit implements Limit {
+
+    static final int RTT_WINDOW_SAMPLES = 100;
+    static final int RAMP_BOOST_STEPS = 10;
+
+    private final Limit delegate;
+    private final int floor;
+    private final long durationNanos;
+    private final double rttTolerance;
+    private final int stableWindows;
+    private final LongSupplier clock;
+
+    private final List<Consumer<Integer>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean warm;
+    private volatile boolean trackingRtt = true;
+    private volatile int published;
+
+    // ramp progress and RTT stability tracking, guarded by "this"
+    private long startNanos;
+    private long boostNanos;
+    private long windowRttSum;
+    private int windowSamples;
+    private double previousWindowRtt = -1;
+    private int stableCount;
+
+    public WarmupLimit(Limit delegate, int floor, long duration, TimeUnit unit,
+                       double rttTolerance, int stableWindows) {
+        this(delegate, floor, duration, unit, rttTolerance, stableWindows, System::nanoTime);
+    }
+
+    WarmupLimit(Limit delegate, int floor, long duration, TimeUnit unit,
+                double rttTolerance, int stableWindows, LongSupplier clock) {
+        this.delegate = delegate;
+        this.floor = Math.max(1, floor);
+        this.durationNanos = unit.toNanos(duration);
+        this.rttTolerance = rttTolerance;
+        this.stableWindows = Math.max(1, stableWindows);
+        this.clock = clock;
+        this.startNanos = clock.getAsLong();
+        this.warm = durationNanos <= 0;
+        this.published = effectiveLimit();
+
+        delegate.notifyOnChange(limit -> publish());
+    }
+
+    @Override
+    public int getLimit() {
+        return published;
+    }
+
+    @Override
+    public void notifyOnChange(Consumer<Integer> consumer) {
+        listeners.add(consumer);
+    }
+
+    @Override
+    public void onSample(long startTime, long rtt, int inflight, boolean didDrop) {
+        delegate.onSample(startTime, rtt, inflight, didDrop);
+        if (!warm) {
+            if (!didDrop && trackingRtt) {
+                trackRtt(rtt);
+            }
+            publish();
+        }
+    }
+
+    /** True once the ramp has elapsed or the RTT has stabilized at the full limit. */
+    public boolean isWarm() {
+        if (!warm) {
+            publish();
+        }
+        return warm;
+    }
+
+    /**
+     * Restarts the ramp from {@code floor}, e.g. once synthetic warmup calls are done so they do
+     * not use up {@code duration}. Also resets the RTT windows.
+     */
+    public void restart() {
+        synchronized (this) {
+            startNanos = clock.getAsLong();
+            boostNanos = 0;
+            warm = durationNanos <= 0;
+            resetRttWindows();
+        }
+        publish();
+    }
+
+    /**
+     * Enables or disables RTT stability tracking. Used to keep synthetic warmup calls out of the
+     * detector; the RTT windows are reset on every change so no such samples carry over.
+     */
+    public synchronized void setRttTracking(boolean enabled) {
+        trackingRtt = enabled;
+        resetRttWindows();
+    }
+
+    private void resetRttWindows() {
+        windowRttSum = 0;
+        windowSamples = 0;
+        previousWindowRtt = -1;
+        stableCount = 0;
+    }
+
+    private synchronized void trackRtt(long rtt) {
+        windowRttSum += rtt;
+        if (++windowSamples < RTT_WINDOW_SAMPLES) {
+            return;
+        }
+
+        double windowRtt = (double) windowRttSum / windowSamples;
+        windowRttSum = 0;
+        windowSamples = 0;
+
+        boolean stable = previousWindowRtt > 0
+                && Math.abs(windowRtt - previousWindowRtt) <= rttTolerance * previousWindowRtt;
+        previousWindowRtt = windowRtt;
+
+        if (!stable) {
+            stableCount = 0;
+        } else if (effectiveLimit() < delegate.getLimit()) {
+            // still ramping: stable latency at this ceiling means we can move up faster
+            boostNanos = Math.min(durationNanos, boostNanos + durationNanos / RAMP_BOOST_STEPS);
+            stableCount = 0;
+        } else if (++stableCount >= stableWindows) {
+            warm = true;
+        }
+    }
+
+    private synchronized void publish() {
+        // the boost only raises the ceiling; warmup itself ends on time or via stable RTT
+        if (!warm && clock.getAsLong() - startNanos >= durationNanos) {
+            warm = true;
+        }
+
+        int limit = effectiveLimit();
+        if (limit != published) {
+            published = limit;
+            listeners.forEach(listener -> listener.accept(limit));
+        }
+    }
+
+    private synchronized int effectiveLimit() {
+        int target = delegate.getLimit();
+        if (warm || target <= floor) {
+            return target;
+        }
+        double progress = (double) (clock.getAsLong() - startNanos + boostNanos) / durationNanos;
+        return floor + (int) ((target - floor) * Math.min(1.0, progress));
+    }
+}
@@ -22,6 +22,14 @@ import java.io.IOException;
  *  - pool size
  *  - rejected tasks
  *
+ * Limiter:
+ *  - vegas limit
+ *  - effective (warmup-capped) limit
+ *  - warmup ready flag
+ *
+ * Fair scheduling (optional):
+ *  - admitted / shed per peer (bounded cardinality)
+ *
  * Config (for demo clarity):
  *  - work_ms
  *  - workers
@@ -120,12 +128,36 @@ public final class Metrics {
             .help("drl vegas limit")
             .register();
 
+    public static final Gauge DRL_EFFECTIVE_LIMIT = Gauge.builder()
+            .name("drl_effective_limit")
+            .help("Limit enforced by the limiter (Vegas limit capped by the warmup ramp)")
+            .register();
+
+    public static final Gauge DRL_WARMUP_READY = Gauge.builder()
+            .name("drl_warmup_ready")
+            .help("1 once limiter warmup is done and the server is ready for full traffic")
+            .register();
+
     public static final Counter DRL_COUNTERS = Counter.builder()
             .name("drl_counters")
             .help("drl counters")
             .labelNames("id","idname","status","statusvalue")
             .register();
 
+    // fair scheduling metrics (peer label bounded by FAIR_MAX_PEERS, overflow -> "other")
+
+    public static final Counter FAIR_ADMITTED_TOTAL = Counter.builder()
+            .name("fair_admitted_total")
+            .help("Requests admitted by the fair scheduler per peer")
+            .labelNames("peer")
+            .register();
+
+    public static final Counter FAIR_SHED_TOTAL = Counter.builder()
+            .name("fair_shed_total")
+            .help("Requests shed by the fair scheduler per peer")
+            .labelNames("peer")
+            .register();
+
     private Metrics() {}
 
     /** Starts an HTTP endpoint for Prometheus to scrape: http://localhost:<port>/metrics */
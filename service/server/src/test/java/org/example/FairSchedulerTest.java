@@ -0,0 +1,222 @@
+package org.example;
+
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limit.SettableLimit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairSchedulerTest {
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final List<String> ran = new ArrayList<>();
+
+    @Test
+    void servesPeersRoundRobin() {
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 1, 16, 0, () -> 100);
+
+        submit(scheduler, "a", "a1");
+        submit(scheduler, "a", "a2");
+        submit(scheduler, "a", "a3");
+        submit(scheduler, "b", "b1");
+        submit(scheduler, "b", "b2");
+        executor.runAll();
+
+        assertEquals(List.of("a1", "a2", "b1", "a3", "b2"), ran);
+        assertEquals(0, scheduler.queued());
+    }
+
+    @Test
+    void quantumDispatchesSeveralTasksPerTurn() {
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 2, 16, 0, () -> 100);
+
+        submit(scheduler, "a", "a1");
+        submit(scheduler, "a", "a2");
+        submit(scheduler, "a", "a3");
+        submit(scheduler, "a", "a4");
+        submit(scheduler, "b", "b1");
+        submit(scheduler, "b", "b2");
+        executor.runAll();
+
+        assertEquals(List.of("a1", "a2", "a3", "b1", "b2", "a4"), ran);
+    }
+
+    @Test
+    void shedsPeerOverItsShareOfTheLimit() {
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 1, 16, 0, () -> 4);
+
+        // alone, a peer may use the whole limit
+        for (int i = 0; i < 4; i++) {
+            assertTrue(submit(scheduler, "a", "a" + i));
+        }
+        assertFalse(submit(scheduler, "a", "a4"));
+
+        // with two active peers each gets limit / 2
+        assertTrue(submit(scheduler, "b", "b0"));
+        assertTrue(submit(scheduler, "b", "b1"));
+        assertFalse(submit(scheduler, "b", "b2"));
+        assertFalse(submit(scheduler, "a", "a5"));
+    }
+
+    @Test
+    void reserveLetsSecondPeerThroughLimiterWhileFirstSaturates() {
+        Limiter<Void> limiter = SimpleLimiter.newBuilder().limit(SettableLimit.startingAt(10)).build();
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 1, 16, 20, () -> 10);
+
+        // the noisy peer is capped at limit - reserved, the rest is shed after the limiter
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            if ("admitted".equals(call(limiter, scheduler, "noisy"))) {
+                admitted++;
+            }
+        }
+        assertEquals(8, admitted);
+
+        assertEquals("admitted", call(limiter, scheduler, "quiet"));
+        // with two active peers the noisy one is shed down to limit / 2
+        assertEquals("shed", call(limiter, scheduler, "noisy"));
+    }
+
+    @Test
+    void withoutReserveSaturatingPeerLocksOthersOutAtLimiter() {
+        Limiter<Void> limiter = SimpleLimiter.newBuilder().limit(SettableLimit.startingAt(10)).build();
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 1, 16, 0, () -> 10);
+
+        for (int i = 0; i < 20; i++) {
+            call(limiter, scheduler, "noisy");
+        }
+        assertEquals("limited", call(limiter, scheduler, "quiet"));
+    }
+
+    @Test
+    void shedsWhenQueueIsFull() {
+        FairScheduler scheduler = new FairScheduler(executor, 1, 2, 1, 16, 0, () -> 100);
+
+        assertTrue(submit(scheduler, "a", "running"));
+        assertTrue(submit(scheduler, "a", "queued1"));
+        assertTrue(submit(scheduler, "b", "queued2"));
+        assertFalse(submit(scheduler, "c", "rejected"));
+        assertEquals(2, scheduler.queued());
+    }
+
+    @Test
+    void overflowPeersShareOtherUntilASlotFrees() {
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 1, 3, 0, () -> 100);
+
+        submit(scheduler, "a", "a1");
+        submit(scheduler, "b", "b1");
+        submit(scheduler, "c", "c1");
+        submit(scheduler, "d", "d1");
+        assertEquals(Set.of("a", "b", FairScheduler.OTHER_PEER), scheduler.activePeers());
+
+        // "a" goes idle and releases its slot to the next new peer
+        executor.runNext();
+        submit(scheduler, "e", "e1");
+        assertEquals(Set.of("b", "e", FairScheduler.OTHER_PEER), scheduler.activePeers());
+
+        executor.runAll();
+        assertEquals(Set.of(), scheduler.activePeers());
+    }
+
+    @Test
+    void recyclesLabelsOfLongIdlePeers() {
+        AtomicLong now = new AtomicLong();
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 1, 3, 0, () -> 100, now::get);
+
+        submit(scheduler, "early1", "e1");
+        submit(scheduler, "early2", "e2");
+        executor.runAll();
+        assertEquals(Set.of("early1", "early2"), scheduler.labels());
+
+        // all label slots taken by recently seen peers: the newcomer is reported as "other"
+        submit(scheduler, "late", "l1");
+        executor.runAll();
+        assertEquals(Set.of("early1", "early2"), scheduler.labels());
+
+        // early2 stays busy, early1 goes idle long enough to give up its label
+        now.addAndGet(FairScheduler.LABEL_IDLE_NANOS / 2);
+        submit(scheduler, "early2", "e3");
+        executor.runAll();
+        now.addAndGet(FairScheduler.LABEL_IDLE_NANOS / 2);
+        submit(scheduler, "late", "l2");
+        assertEquals(Set.of("early2", "late"), scheduler.labels());
+    }
+
+    @Test
+    void resetLabelsFreesAllSlots() {
+        FairScheduler scheduler = new FairScheduler(executor, 1, 100, 1, 2, 0, () -> 100);
+
+        submit(scheduler, "127.0.0.1", "warmup");
+        executor.runAll();
+        assertEquals(Set.of("127.0.0.1"), scheduler.labels());
+
+        scheduler.resetLabels();
+        submit(scheduler, "tenant", "t1");
+        assertEquals(Set.of("tenant"), scheduler.labels());
+    }
+
+    @Test
+    void failsTaskWhenExecutorRejects() {
+        AtomicInteger rejected = new AtomicInteger();
+        Executor refusing = r -> {
+            throw new RejectedExecutionException("shut down");
+        };
+        FairScheduler scheduler = new FairScheduler(refusing, 1, 100, 1, 16, 0, () -> 1);
+
+        assertTrue(scheduler.submit("a", () -> ran.add("a1"), rejected::incrementAndGet));
+        assertTrue(scheduler.submit("a", () -> ran.add("a2"), rejected::incrementAndGet));
+
+        assertEquals(2, rejected.get());
+        assertEquals(List.of(), ran);
+        assertEquals(0, scheduler.queued());
+        assertEquals(Set.of(), scheduler.activePeers());
+    }
+
+    /** Mirrors the server: limiter first, then the fair scheduler. */
+    private String call(Limiter<Void> limiter, FairScheduler scheduler, String peer) {
+        Optional<Limiter.Listener> listener = limiter.acquire(null);
+        if (listener.isEmpty()) {
+            return "limited";
+        }
+        boolean admitted = scheduler.submit(peer, listener.get()::onSuccess, listener.get()::onIgnore);
+        if (!admitted) {
+            listener.get().onIgnore();
+            return "shed";
+        }
+        return "admitted";
+    }
+
+    private boolean submit(FairScheduler scheduler, String peer, String name) {
+        return scheduler.submit(peer, () -> ran.add(name), () -> fail("unexpected rejection of " + name));
+    }
+
+    private static final class ManualExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runNext() {
+            tasks.poll().run();
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                runNext();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example;
+
+import com.netflix.concurrency.limits.limit.SettableLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupLimitTest {
+
+    private static final long DURATION_MS = 10_000;
+
+    private final AtomicLong now = new AtomicLong();
+    private final SettableLimit delegate = SettableLimit.startingAt(20);
+    private final WarmupLimit limit =
+            new WarmupLimit(delegate, 4, DURATION_MS, TimeUnit.MILLISECONDS, 0.1, 3, now::get);
+
+    @Test
+    void rampsLinearlyFromFloorToDelegateLimit() {
+        assertEquals(4, limit.getLimit());
+        assertFalse(limit.isWarm());
+
+        advanceMs(DURATION_MS / 2);
+        assertFalse(limit.isWarm());
+        assertEquals(12, limit.getLimit());
+
+        advanceMs(DURATION_MS / 2);
+        assertTrue(limit.isWarm());
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void notifiesListenersAsTheCeilingRises() {
+        List<Integer> published = new ArrayList<>();
+        limit.notifyOnChange(published::add);
+
+        advanceMs(DURATION_MS / 4);
+        limit.isWarm();
+        advanceMs(DURATION_MS);
+        limit.isWarm();
+
+        assertEquals(List.of(8, 20), published);
+    }
+
+    @Test
+    void followsDelegateAfterWarmup() {
+        advanceMs(DURATION_MS);
+        assertTrue(limit.isWarm());
+
+        delegate.setLimit(30);
+        assertEquals(30, limit.getLimit());
+    }
+
+    @Test
+    void stableRttSpeedsUpTheRampWithoutJumping() {
+        List<Integer> published = new ArrayList<>();
+        limit.notifyOnChange(published::add);
+
+        // first window only sets the baseline, the next one is stable
+        sampleWindows(2, 5);
+        assertFalse(limit.isWarm());
+        assertEquals(5, limit.getLimit());
+
+        // clock is frozen: only stable windows move the ceiling
+        sampleWindows(20, 5);
+        assertTrue(limit.isWarm());
+        assertEquals(20, limit.getLimit());
+
+        int previous = 4;
+        for (int value : published) {
+            assertTrue(value - previous <= 2, "ceiling stepped from " + previous + " to " + value);
+            previous = value;
+        }
+    }
+
+    @Test
+    void stableWindowsAtFullLimitDecideEarlyExit() {
+        WarmupLimit quick = new WarmupLimit(delegate, 4, DURATION_MS, TimeUnit.MILLISECONDS, 0.1, 1, now::get);
+
+        // 1 baseline window + 10 boosts bring both ceilings up to the delegate's limit
+        sampleWindows(limit, 11, 5);
+        sampleWindows(quick, 11, 5);
+        assertEquals(20, limit.getLimit());
+        assertEquals(20, quick.getLimit());
+        assertFalse(limit.isWarm());
+        assertFalse(quick.isWarm());
+
+        sampleWindows(limit, 1, 5);
+        sampleWindows(quick, 1, 5);
+        assertFalse(limit.isWarm());
+        assertTrue(quick.isWarm());
+
+        sampleWindows(limit, 2, 5);
+        assertTrue(limit.isWarm());
+    }
+
+    @Test
+    void restartBeginsTheRampAgain() {
+        advanceMs(DURATION_MS * 3 / 4);
+        assertFalse(limit.isWarm());
+        assertEquals(16, limit.getLimit());
+
+        limit.setRttTracking(false);
+        limit.restart();
+        assertEquals(4, limit.getLimit());
+
+        advanceMs(DURATION_MS * 3 / 4);
+        assertFalse(limit.isWarm());
+        advanceMs(DURATION_MS / 4);
+        assertTrue(limit.isWarm());
+    }
+
+    @Test
+    void unstableRttDoesNotSpeedUpTheRamp() {
+        for (int i = 0; i < 10; i++) {
+            sampleWindows(1, (i % 2 == 0) ? 5 : 50);
+        }
+        assertFalse(limit.isWarm());
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void ignoresSamplesWhileRttTrackingIsOff() {
+        limit.setRttTracking(false);
+        sampleWindows(20, 5);
+        assertFalse(limit.isWarm());
+        assertEquals(4, limit.getLimit());
+
+        limit.setRttTracking(true);
+        sampleWindows(1, 5);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void zeroDurationDisablesWarmup() {
+        WarmupLimit disabled =
+                new WarmupLimit(delegate, 4, 0, TimeUnit.MILLISECONDS, 0.1, 3, now::get);
+        assertTrue(disabled.isWarm());
+        assertEquals(20, disabled.getLimit());
+    }
+
+    private void advanceMs(long ms) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    private void sampleWindows(int windows, long rttMs) {
+        sampleWindows(limit, windows, rttMs);
+    }
+
+    private void sampleWindows(WarmupLimit target, int windows, long rttMs) {
+        for (int i = 0; i < windows * WarmupLimit.RTT_WINDOW_SAMPLES; i++) {
+            target.onSample(now.get(), TimeUnit.MILLISECONDS.toNanos(rttMs), 1, false);
+        }
+    }
+}